@@ -0,0 +1,135 @@
+package co.mide.imagegridlayout;
+
+import android.content.Context;
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.test.AndroidTestCase;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+
+/**
+ * Counts how many children of an ImageGridLayout get new LayoutParams for each insert or remove.
+ */
+public class ImageGridLayoutTest extends AndroidTestCase {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+
+    public void testAppend_touchesSplitCellAndNewImage() {
+        ImageGridLayout layout = createLayout(5);
+        //one existing cell is halved and the new image is placed
+        assertEquals(2, addImage(layout, 5));
+        assertEquals(2, addImage(layout, 6));
+    }
+
+    public void testRemoveLast_touchesMergedCellOnly() {
+        ImageGridLayout layout = createLayout(7);
+        //the removed image needs no params, the cell it merges back into does
+        assertEquals(1, removeImage(layout, 6));
+        assertEquals(1, removeImage(layout, 5));
+    }
+
+    public void testInsertInMiddle_onlyTouchesShiftedImages() {
+        ImageGridLayout layout = createLayout(6);
+        //images before the insert keep their params unless their cell was split,
+        //so this is the new image, the three shifted images and the halved cell
+        assertEquals(4, addImage(layout, 3));
+        assertEquals(7, layout.getImageCount());
+    }
+
+    public void testRemoveAndReAdd_keepsColumnCount() {
+        ImageGridLayout layout = createLayout(5);
+        int columnCount = layout.getColumnCount();
+        //dropping back to 4 cells doesn't shrink the column count, so no other span changes
+        assertEquals(1, removeImage(layout, 4));
+        assertEquals(columnCount, layout.getColumnCount());
+        assertEquals(2, addImage(layout, 4));
+    }
+
+    public void testAppendThatDeepensTree_withoutLimit_touchesEveryImage() {
+        ImageGridLayout layout = createLayout(4);
+        int columnCount = layout.getColumnCount();
+        //every span is counted in columns, so a new column count moves everything
+        assertEquals(5, addImage(layout, 4));
+        assertTrue(layout.getColumnCount() > columnCount);
+    }
+
+    public void testAppendThatDeepensTree_withSplitLimit_touchesSplitCellAndNewImage() {
+        ImageGridLayout layout = createLayout(0);
+        layout.setMaxSplitDepth(4);
+        for(int i = 0; i < 4; i++)
+            addImage(layout, i);
+        //the column count of a full layout is used from the start, so no span has to change
+        assertEquals(4, layout.getColumnCount());
+        for(int i = 4; i < 16; i++)
+            assertEquals(2, addImage(layout, i));
+        assertEquals(4, layout.getColumnCount());
+    }
+
+    private ImageGridLayout createLayout(int imageCount){
+        ImageGridLayout layout = new ImageGridLayout(getContext());
+        layout.setMaxImageCount(Integer.MAX_VALUE);
+        measure(layout);
+        for(int i = 0; i < imageCount; i++)
+            addImage(layout, i);
+        return layout;
+    }
+
+    /**
+     * @return the number of images that got new params, including the new image
+     */
+    private int addImage(ImageGridLayout layout, int index){
+        resetCounts(layout);
+        layout.addView(new CountingImageView(getContext()), index);
+        measure(layout);
+        return getTouchedCount(layout);
+    }
+
+    /**
+     * @return the number of images left in the layout that got new params
+     */
+    private static int removeImage(ImageGridLayout layout, int index){
+        resetCounts(layout);
+        layout.removeViewAt(index);
+        measure(layout);
+        return getTouchedCount(layout);
+    }
+
+    private static void measure(View view){
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static void resetCounts(ImageGridLayout layout){
+        for(int i = 0; i < layout.getChildCount(); i++)
+            ((CountingImageView)layout.getChildAt(i)).layoutParamsCount = 0;
+    }
+
+    private static int getTouchedCount(ImageGridLayout layout){
+        int touched = 0;
+        for(int i = 0; i < layout.getChildCount(); i++){
+            if(((CountingImageView)layout.getChildAt(i)).layoutParamsCount > 0)
+                touched++;
+        }
+        return touched;
+    }
+
+    /**
+     * An image that counts how many times it is given LayoutParams
+     */
+    private static class CountingImageView extends ImageView {
+        int layoutParamsCount = 0;
+
+        CountingImageView(Context context){
+            super(context);
+            setImageDrawable(new ColorDrawable(Color.GRAY));
+        }
+
+        @Override
+        public void setLayoutParams(ViewGroup.LayoutParams params){
+            layoutParamsCount++;
+            super.setLayoutParams(params);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,114 @@
+package co.mide.imagegridlayout;
+
+import android.graphics.Color;
+import android.graphics.drawable.ColorDrawable;
+import android.test.AndroidTestCase;
+import android.util.Log;
+import android.view.View;
+import android.widget.ImageView;
+
+/**
+ * Times measuring and laying out an ImageGridLayout with albums of 16, 64 and 256 images,
+ * with and without a split depth limit. Images are added with addView, the way an app adds them,
+ * after the layout has been measured once.
+ */
+public class LayoutBenchmarkTest extends AndroidTestCase {
+    private static final String TAG = "LayoutBenchmark";
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+    private static final int MAX_DEPTH = 4;
+    private static final int[] ALBUM_SIZES = {16, 64, 256};
+    private static final int RUNS = 20;
+
+    public void testUnbounded_growsWithAlbum() {
+        int lastColumnCount = 0;
+        for(int albumSize : ALBUM_SIZES){
+            ImageGridLayout layout = createLayout(albumSize, -1);
+            Log.i(TAG, "unbounded, " + albumSize + " images: " + timeLayout(layout) + "ns");
+            assertEquals(albumSize, getShownChildCount(layout));
+            assertEquals(0, layout.getMoreImagesCount());
+            assertTrue(layout.getColumnCount() > lastColumnCount);
+            lastColumnCount = layout.getColumnCount();
+        }
+        assertEquals(16, lastColumnCount);
+    }
+
+    public void testMaxSplitDepth_boundsCellsAndColumns() {
+        for(int albumSize : ALBUM_SIZES){
+            ImageGridLayout layout = createLayout(albumSize, MAX_DEPTH);
+            Log.i(TAG, "max depth " + MAX_DEPTH + ", " + albumSize + " images: " + timeLayout(layout) + "ns");
+            //15 images and the overflow view once the album doesn't fit
+            assertEquals(1 << MAX_DEPTH, getShownChildCount(layout));
+            assertEquals(albumSize == 16 ? 0 : albumSize - 15, layout.getMoreImagesCount());
+            assertEquals(albumSize, layout.getImageCount());
+            assertEquals(4, layout.getColumnCount());
+        }
+    }
+
+    public void testMaxSplitDepth_measuresFasterThanUnbounded() {
+        long unbounded = timeLayout(createLayout(256, -1));
+        long bounded = timeLayout(createLayout(256, MAX_DEPTH));
+        assertTrue(bounded + "ns should be less than " + unbounded + "ns", bounded < unbounded);
+    }
+
+    public void testMinCellSize_keepsImagesWhenMeasuredSmaller() {
+        ImageGridLayout layout = createLayout(64, -1);
+        layout.setMinCellSize(100);
+        measure(layout, WIDTH, HEIGHT);
+        assertEquals(32, getShownChildCount(layout));
+        assertEquals(33, layout.getMoreImagesCount());
+
+        measure(layout, WIDTH/4, HEIGHT/4);
+        assertEquals(2, getShownChildCount(layout));
+        assertEquals(63, layout.getMoreImagesCount());
+
+        measure(layout, WIDTH, HEIGHT);
+        assertEquals(32, getShownChildCount(layout));
+        assertEquals(33, layout.getMoreImagesCount());
+        assertEquals(64, layout.getImageCount());
+    }
+
+    private ImageGridLayout createLayout(int albumSize, int maxDepth){
+        ImageGridLayout layout = new ImageGridLayout(getContext());
+        layout.setMaxImageCount(Integer.MAX_VALUE);
+        layout.setMaxSplitDepth(maxDepth);
+        measure(layout, WIDTH, HEIGHT);
+        for(int i = 0; i < albumSize; i++){
+            ImageView image = new ImageView(getContext());
+            image.setImageDrawable(new ColorDrawable(Color.GRAY));
+            layout.addView(image);
+            //a 1080x720 layout 4 splits deep has 4 columns
+            if(maxDepth == MAX_DEPTH)
+                assertTrue(layout.getColumnCount() <= 4);
+        }
+        measure(layout, WIDTH, HEIGHT);
+        return layout;
+    }
+
+    /**
+     * @return the average time to measure and lay out the layout in nanoseconds
+     */
+    private static long timeLayout(ImageGridLayout layout){
+        long start = System.nanoTime();
+        for(int i = 0; i < RUNS; i++){
+            layout.forceLayout();
+            measure(layout, WIDTH, HEIGHT);
+        }
+        return (System.nanoTime() - start)/RUNS;
+    }
+
+    private static void measure(View view, int width, int height){
+        view.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static int getShownChildCount(ImageGridLayout layout){
+        int count = 0;
+        for(int i = 0; i < layout.getChildCount(); i++){
+            if(layout.getChildAt(i).getVisibility() != View.GONE)
+                count++;
+        }
+        return count;
+    }
+}
\ No newline at end of file
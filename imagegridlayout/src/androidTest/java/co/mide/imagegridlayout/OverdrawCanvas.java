@@ -0,0 +1,174 @@
+package co.mide.imagegridlayout;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.graphics.RectF;
+
+/**
+ * A canvas that counts how many times each pixel is drawn on instead of drawing.
+ * Every fill is counted over its bounds, clipped to the clip bounds and mapped through the
+ * current matrix. Text isn't counted, and a clip that isn't a rect is counted as its bounds.
+ */
+@SuppressWarnings("deprecation")
+class OverdrawCanvas extends Canvas {
+    private final int width, height;
+    private final int[] counts;
+    private final Rect clip = new Rect();
+    private final RectF rect = new RectF();
+    private final Matrix matrix = new Matrix();
+
+    OverdrawCanvas(int width, int height){
+        super(Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888));
+        this.width = width;
+        this.height = height;
+        this.counts = new int[width*height];
+    }
+
+    private void count(float left, float top, float right, float bottom){
+        if(!getClipBounds(clip))
+            return;
+        rect.set(Math.max(left, clip.left), Math.max(top, clip.top),
+                Math.min(right, clip.right), Math.min(bottom, clip.bottom));
+        if(rect.isEmpty())
+            return;
+        getMatrix(matrix);
+        matrix.mapRect(rect);
+        for(int y = Math.max(Math.round(rect.top), 0); y < Math.min(Math.round(rect.bottom), height); y++){
+            for(int x = Math.max(Math.round(rect.left), 0); x < Math.min(Math.round(rect.right), width); x++)
+                counts[y*width + x]++;
+        }
+    }
+
+    private void countEverything(){
+        count(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return the number of times the pixel at x, y was drawn on
+     */
+    int getDrawCount(int x, int y){
+        return counts[y*width + x];
+    }
+
+    /**
+     * @return the lowest number of times any pixel in the region was drawn on
+     */
+    int getMinDrawCount(Rect region){
+        int min = Integer.MAX_VALUE;
+        for(int y = region.top; y < region.bottom; y++){
+            for(int x = region.left; x < region.right; x++)
+                min = Math.min(min, getDrawCount(x, y));
+        }
+        return min;
+    }
+
+    /**
+     * @return the highest number of times any pixel in the region was drawn on
+     */
+    int getMaxDrawCount(Rect region){
+        int max = 0;
+        for(int y = region.top; y < region.bottom; y++){
+            for(int x = region.left; x < region.right; x++)
+                max = Math.max(max, getDrawCount(x, y));
+        }
+        return max;
+    }
+
+    /**
+     * @return the sum of every pixel's draw count
+     */
+    long getTotalDrawCount(){
+        long total = 0;
+        for(int count : counts)
+            total += count;
+        return total;
+    }
+
+    @Override
+    public void drawRect(float left, float top, float right, float bottom, Paint paint){
+        count(left, top, right, bottom);
+    }
+
+    @Override
+    public void drawRect(Rect r, Paint paint){
+        count(r.left, r.top, r.right, r.bottom);
+    }
+
+    @Override
+    public void drawRect(RectF r, Paint paint){
+        count(r.left, r.top, r.right, r.bottom);
+    }
+
+    @Override
+    public void drawRoundRect(RectF r, float rx, float ry, Paint paint){
+        count(r.left, r.top, r.right, r.bottom);
+    }
+
+    @Override
+    public void drawOval(RectF oval, Paint paint){
+        count(oval.left, oval.top, oval.right, oval.bottom);
+    }
+
+    @Override
+    public void drawCircle(float cx, float cy, float radius, Paint paint){
+        count(cx - radius, cy - radius, cx + radius, cy + radius);
+    }
+
+    @Override
+    public void drawPath(Path path, Paint paint){
+        path.computeBounds(rect, true);
+        count(rect.left, rect.top, rect.right, rect.bottom);
+    }
+
+    @Override
+    public void drawPaint(Paint paint){
+        countEverything();
+    }
+
+    @Override
+    public void drawColor(int color){
+        countEverything();
+    }
+
+    @Override
+    public void drawColor(int color, PorterDuff.Mode mode){
+        countEverything();
+    }
+
+    @Override
+    public void drawARGB(int a, int r, int g, int b){
+        countEverything();
+    }
+
+    @Override
+    public void drawRGB(int r, int g, int b){
+        countEverything();
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, float left, float top, Paint paint){
+        count(left, top, left + bitmap.getWidth(), top + bitmap.getHeight());
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, Rect dst, Paint paint){
+        count(dst.left, dst.top, dst.right, dst.bottom);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Rect src, RectF dst, Paint paint){
+        count(dst.left, dst.top, dst.right, dst.bottom);
+    }
+
+    @Override
+    public void drawBitmap(Bitmap bitmap, Matrix bitmapMatrix, Paint paint){
+        rect.set(0, 0, bitmap.getWidth(), bitmap.getHeight());
+        bitmapMatrix.mapRect(rect);
+        count(rect.left, rect.top, rect.right, rect.bottom);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+package co.mide.imagegridlayout;
+
+import android.graphics.Color;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.test.AndroidTestCase;
+import android.view.View;
+import android.widget.ImageView;
+
+/**
+ * Draws an ImageGridLayout with a background, four opaque images and the overflow view into an
+ * OverdrawCanvas, and counts how many times each pixel is drawn on. The same layout drawn with
+ * its background under everything, as View.draw() would without GutterDrawable, is the baseline.
+ */
+public class OverdrawTest extends AndroidTestCase {
+    private static final int WIDTH = 540;
+    private static final int HEIGHT = 360;
+    private static final String IMAGE = "image";
+
+    public void testColorBackground_onlyDrawnInGutters() {
+        ImageGridLayout layout = createLayout();
+        OverdrawCanvas before = drawWithFullBackground(layout);
+        OverdrawCanvas after = draw(layout);
+
+        long cellArea = 0;
+        for(int i = 0; i < layout.getChildCount(); i++){
+            View child = layout.getChildAt(i);
+            Rect bounds = getBounds(child);
+            cellArea += bounds.width()*bounds.height();
+            if(IMAGE.equals(child.getTag())){
+                assertEquals(2, before.getMinDrawCount(bounds));
+                assertEquals(1, after.getMinDrawCount(bounds));
+                assertEquals(1, after.getMaxDrawCount(bounds));
+            }
+        }
+        //the overflow view is opaque too, so the background is gone from under every cell
+        assertEquals(before.getTotalDrawCount() - cellArea, after.getTotalDrawCount());
+        assertGuttersDrawnOnce(layout, after);
+    }
+
+    public void testImageWithoutDrawable_getsBackgroundBehindIt() {
+        ImageGridLayout layout = createLayout();
+        draw(layout);
+        ImageView image = (ImageView)layout.getChildAt(0);
+        image.setImageDrawable(null);
+        OverdrawCanvas canvas = draw(layout);
+
+        Rect bounds = getBounds(image);
+        assertEquals(1, canvas.getMinDrawCount(bounds));
+        assertEquals(1, canvas.getMaxDrawCount(bounds));
+        assertGuttersDrawnOnce(layout, canvas);
+    }
+
+    public void testFadingImage_getsBackgroundBehindIt() {
+        ImageGridLayout layout = createLayout();
+        draw(layout);
+        View image = layout.getChildAt(0);
+        image.setAlpha(0.5f);
+        OverdrawCanvas canvas = draw(layout);
+
+        Rect bounds = getBounds(image);
+        assertEquals(2, canvas.getMinDrawCount(bounds));
+        Rect opaqueBounds = getBounds(layout.getChildAt(1));
+        assertEquals(1, canvas.getMaxDrawCount(opaqueBounds));
+        assertGuttersDrawnOnce(layout, canvas);
+    }
+
+    /**
+     * @return a layout with four images and an overflow view counting the fifth
+     */
+    private ImageGridLayout createLayout(){
+        ImageGridLayout layout = new ImageGridLayout(getContext());
+        layout.setBackgroundColor(Color.WHITE);
+        layout.setMaxImageCount(4);
+        for(int i = 0; i < 5; i++){
+            ImageView image = new ImageView(getContext());
+            image.setImageDrawable(new ColorDrawable(Color.GRAY));
+            image.setTag(IMAGE);
+            layout.addView(image);
+        }
+        assertEquals(1, layout.getMoreImagesCount());
+        return layout;
+    }
+
+    private static OverdrawCanvas draw(ImageGridLayout layout){
+        measure(layout);
+        OverdrawCanvas canvas = new OverdrawCanvas(WIDTH, HEIGHT);
+        layout.draw(canvas);
+        return canvas;
+    }
+
+    /**
+     * Draws the background under the whole layout, then the layout without a background
+     */
+    @SuppressWarnings("deprecation")
+    private static OverdrawCanvas drawWithFullBackground(ImageGridLayout layout){
+        Drawable background = layout.getBackground();
+        layout.setBackgroundDrawable(null);
+        measure(layout);
+        OverdrawCanvas canvas = new OverdrawCanvas(WIDTH, HEIGHT);
+        background.setBounds(0, 0, WIDTH, HEIGHT);
+        background.draw(canvas);
+        layout.draw(canvas);
+        layout.setBackgroundDrawable(background);
+        return canvas;
+    }
+
+    private static void measure(View view){
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, view.getMeasuredWidth(), view.getMeasuredHeight());
+    }
+
+    private static Rect getBounds(View child){
+        return new Rect(child.getLeft(), child.getTop(), child.getRight(), child.getBottom());
+    }
+
+    /**
+     * Checks that every pixel outside the children is drawn on exactly once
+     */
+    private static void assertGuttersDrawnOnce(ImageGridLayout layout, OverdrawCanvas canvas){
+        Rect[] children = new Rect[layout.getChildCount()];
+        for(int i = 0; i < children.length; i++)
+            children[i] = getBounds(layout.getChildAt(i));
+        for(int y = 0; y < HEIGHT; y++){
+            for(int x = 0; x < WIDTH; x++){
+                boolean inChild = false;
+                for(Rect child : children)
+                    inChild |= child.contains(x, y);
+                if(!inChild)
+                    assertEquals("pixel " + x + ", " + y, 1, canvas.getDrawCount(x, y));
+            }
+        }
+    }
+}
\ No newline at end of file
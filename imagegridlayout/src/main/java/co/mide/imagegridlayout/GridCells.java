@@ -0,0 +1,143 @@
+package co.mide.imagegridlayout;
+
+/**
+ * The bounds of the cells of an ImageGridLayout, and which of them hide everything drawn
+ * behind them. The background of the layout is only drawn in the gutters around the cells and
+ * behind the cells that can be seen through. The cells are collected again when the layout
+ * draws, and the layout only has to redraw its background if they changed.
+ */
+class GridCells {
+    /**
+     * Something that can have rects clipped out of it, such as a Canvas
+     */
+    interface Clip {
+        void clipOut(int left, int top, int right, int bottom);
+    }
+
+    /**
+     * Something that can have rects filled in, such as a Canvas
+     */
+    interface Fill {
+        void fill(int left, int top, int right, int bottom);
+    }
+
+    //left, top, right and bottom of every cell, then 1 if it is opaque and 0 if not
+    private static final int STRIDE = 5;
+    private int[] cells = new int[16*STRIDE];
+    private int size = 0;
+    private int opaqueCount = 0;
+    private int[] pending = new int[16*STRIDE];
+    private int pendingSize = 0;
+    private int pendingOpaqueCount = 0;
+
+    /**
+     * Starts collecting the cells. Cells are added with add() and the update
+     * is finished with finishUpdate().
+     */
+    void startUpdate(){
+        pendingSize = 0;
+        pendingOpaqueCount = 0;
+    }
+
+    /**
+     * Adds a cell, without its margins
+     * @param opaque true if the cell hides everything drawn behind it
+     */
+    void add(int left, int top, int right, int bottom, boolean opaque){
+        if(pendingSize + STRIDE > pending.length){
+            int[] grown = new int[pending.length*2];
+            System.arraycopy(pending, 0, grown, 0, pendingSize);
+            pending = grown;
+        }
+        pending[pendingSize++] = left;
+        pending[pendingSize++] = top;
+        pending[pendingSize++] = right;
+        pending[pendingSize++] = bottom;
+        pending[pendingSize++] = opaque ? 1 : 0;
+        if(opaque)
+            pendingOpaqueCount++;
+    }
+
+    /**
+     * Replaces the cells with the ones added since startUpdate()
+     * @return true if the cells changed
+     */
+    boolean finishUpdate(){
+        boolean changed = pendingSize != size;
+        for(int i = 0; !changed && i < size; i++)
+            changed = pending[i] != cells[i];
+        int[] swap = cells;
+        cells = pending;
+        size = pendingSize;
+        opaqueCount = pendingOpaqueCount;
+        pending = swap;
+        return changed;
+    }
+
+    /**
+     * @return the number of opaque cells
+     */
+    int getOpaqueCount(){
+        return opaqueCount;
+    }
+
+    /**
+     * Clips every opaque cell out of clip
+     */
+    void clipOut(Clip clip){
+        for(int i = 0; i < size; i += STRIDE){
+            if(cells[i + 4] == 1)
+                clip.clipOut(cells[i], cells[i + 1], cells[i + 2], cells[i + 3]);
+        }
+    }
+
+    /**
+     * Fills everything in bounds except the opaque cells. That is the area around the cells,
+     * the margins of every cell and the cells that can be seen through, each filled once.
+     * This only works if the cells and their margins tile a rect inside bounds. If they don't,
+     * for example while a child is being moved, nothing is filled.
+     * @param margin the margin around every cell
+     * @return true if everything except the opaque cells was filled
+     */
+    boolean fillGutters(int left, int top, int right, int bottom, int margin, Fill fill){
+        if(size == 0){
+            fill(fill, left, top, right, bottom);
+            return true;
+        }
+        int cellsLeft = Integer.MAX_VALUE, cellsTop = Integer.MAX_VALUE;
+        int cellsRight = Integer.MIN_VALUE, cellsBottom = Integer.MIN_VALUE;
+        long area = 0;
+        for(int i = 0; i < size; i += STRIDE){
+            cellsLeft = Math.min(cellsLeft, cells[i] - margin);
+            cellsTop = Math.min(cellsTop, cells[i + 1] - margin);
+            cellsRight = Math.max(cellsRight, cells[i + 2] + margin);
+            cellsBottom = Math.max(cellsBottom, cells[i + 3] + margin);
+            area += (long)(cells[i + 2] - cells[i] + 2*margin)*(cells[i + 3] - cells[i + 1] + 2*margin);
+        }
+        if(cellsLeft < left || cellsTop < top || cellsRight > right || cellsBottom > bottom
+                || area != (long)(cellsRight - cellsLeft)*(cellsBottom - cellsTop))
+            return false;
+
+        //around the cells
+        fill(fill, left, top, right, cellsTop);
+        fill(fill, left, cellsBottom, right, bottom);
+        fill(fill, left, cellsTop, cellsLeft, cellsBottom);
+        fill(fill, cellsRight, cellsTop, right, cellsBottom);
+        for(int i = 0; i < size; i += STRIDE){
+            int cellLeft = cells[i], cellTop = cells[i + 1], cellRight = cells[i + 2], cellBottom = cells[i + 3];
+            //the margins
+            fill(fill, cellLeft - margin, cellTop - margin, cellRight + margin, cellTop);
+            fill(fill, cellLeft - margin, cellBottom, cellRight + margin, cellBottom + margin);
+            fill(fill, cellLeft - margin, cellTop, cellLeft, cellBottom);
+            fill(fill, cellRight, cellTop, cellRight + margin, cellBottom);
+            if(cells[i + 4] == 0)
+                fill(fill, cellLeft, cellTop, cellRight, cellBottom);
+        }
+        return true;
+    }
+
+    private static void fill(Fill fill, int left, int top, int right, int bottom){
+        if(left < right && top < bottom)
+            fill.fill(left, top, right, bottom);
+    }
+}
\ No newline at end of file
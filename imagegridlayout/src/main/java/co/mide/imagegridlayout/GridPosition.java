@@ -0,0 +1,165 @@
+package co.mide.imagegridlayout;
+
+/**
+ * object that holds information on how to size and position image.
+ * The position is kept as a whole number of cells of this cell's own size, so a cell at
+ * column 3 with an inverseWidth of 4 starts three quarters of the way across the layout.
+ * Created by Olumide on 6/14/2016.
+ */
+class GridPosition {
+    private int layoutWidth, layoutHeight;
+    private int inverseWidth = 1;
+    private int inverseHeight = 1;
+    private int column;
+    private int row;
+    private int index;
+    //true if this cell was created by splitting its parent's height, false if by its width
+    private boolean splitVertically;
+
+    /**
+     * Constructor for GridPosition
+     * @param layoutWidth this is the layoutWidth of the GridLayout
+     * @param layoutHeight this is the layoutHeight of the GridLayout
+     */
+    public GridPosition(int layoutWidth, int layoutHeight){
+        this.layoutWidth = layoutWidth;
+        this.layoutHeight = layoutHeight;
+    }
+
+    public int getWidth(){
+        return layoutWidth /inverseWidth;
+    }
+
+    public int getHeight(){
+        return layoutHeight /inverseHeight;
+    }
+
+    public int getInverseWidth(){
+        return inverseWidth;
+    }
+
+    public int getInverseHeight(){
+        return inverseHeight;
+    }
+
+    public float getPositionX(){
+        return (float)column/inverseWidth;
+    }
+
+    public float getPositionY(){
+        return (float)row/inverseHeight;
+    }
+
+    /**
+     * @param columnCount the number of columns the layout is divided into
+     * @return the first column this cell occupies
+     */
+    public int getColumn(int columnCount){
+        return column * getColumnSpan(columnCount);
+    }
+
+    /**
+     * @param columnCount the number of columns the layout is divided into
+     * @return the number of columns this cell occupies
+     */
+    public int getColumnSpan(int columnCount){
+        return columnCount/inverseWidth;
+    }
+
+    /**
+     * @param columnCount the number of columns the layout is divided into
+     * @return the first row this cell occupies
+     */
+    public int getRow(int columnCount){
+        return row * getRowSpan(columnCount);
+    }
+
+    /**
+     * @param columnCount the number of columns the layout is divided into
+     * @return the number of rows this cell occupies
+     */
+    public int getRowSpan(int columnCount){
+        return columnCount/inverseHeight;
+    }
+
+    public void setIndex(int index){
+        this.index = index;
+    }
+
+    public int getIndex(){
+        return this.index;
+    }
+
+    /**
+     * Checks if this position is at or below and to the right of another position
+     * @param other the position to compare against
+     * @return true if neither of this position's coordinates is less than other's
+     */
+    public boolean isLowerRightOf(GridPosition other){
+        //compare column/inverseWidth >= other.column/other.inverseWidth without floats
+        return (long)column * other.inverseWidth >= (long)other.column * inverseWidth
+                && (long)row * other.inverseHeight >= (long)other.row * inverseHeight;
+    }
+
+    /**
+     * Halves this position along its longer side.
+     * This position keeps the top/left half and the returned position gets the other half.
+     * @return the position of the newly created half
+     */
+    public GridPosition splitPosition(){
+        GridPosition newPosition = new GridPosition(layoutWidth, layoutHeight);
+        newPosition.splitVertically = getHeight() >= getWidth();
+        if(newPosition.splitVertically){
+            inverseHeight *= 2;
+            row *= 2;
+            newPosition.column = column;
+            newPosition.row = row + 1;
+        }else{
+            inverseWidth *= 2;
+            column *= 2;
+            newPosition.column = column + 1;
+            newPosition.row = row;
+        }
+        newPosition.inverseWidth = this.inverseWidth;
+        newPosition.inverseHeight = this.inverseHeight;
+        return newPosition;
+    }
+
+    /**
+     * Undoes splitPosition(), growing this position back over the half it gave away
+     * @param half the position that was returned when this position was split
+     */
+    public void mergePosition(GridPosition half){
+        if(half.splitVertically){
+            inverseHeight /= 2;
+            row /= 2;
+        }else{
+            inverseWidth /= 2;
+            column /= 2;
+        }
+    }
+
+    @SuppressWarnings("all")
+    @Override
+    public String toString(){
+        StringBuilder result = new StringBuilder();
+        result.append(this.getClass().getName());
+        result.append(" Object {");
+        result.append("\n  layoutWidth: ");
+        result.append(layoutWidth);
+        result.append("\n  layoutHeight: ");
+        result.append(layoutHeight);
+        result.append("\n  inverseWidth: ");
+        result.append(inverseWidth);
+        result.append("\n  inverseHeight: ");
+        result.append(inverseHeight);
+        result.append("\n  index: ");
+        result.append(index);
+        result.append("\n  column: ");
+        result.append(column);
+        result.append("\n  row: ");
+        result.append(row);
+        result.append("\n}");
+        return result.toString();
+    }
+}
\ No newline at end of file
@@ -0,0 +1,113 @@
+package co.mide.imagegridlayout;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Region;
+import android.graphics.drawable.ColorDrawable;
+import android.graphics.drawable.Drawable;
+import android.graphics.drawable.InsetDrawable;
+import android.os.Build;
+
+/**
+ * Background of an ImageGridLayout.
+ * It draws the wrapped drawable everywhere except behind the opaque cells of the layout,
+ * so the background only costs a draw in the gutters between the images.
+ * A plain color is drawn as one rect per gutter. Other drawables are drawn with the opaque
+ * cells clipped out, which is slower on hardware canvases.
+ */
+class GutterDrawable extends InsetDrawable implements GridCells.Clip, GridCells.Fill {
+    private final Drawable drawable;
+    private final ImageGridLayout layout;
+    private final Paint paint = new Paint();
+    private Canvas canvas;
+
+    /**
+     * Constructor for GutterDrawable
+     * @param drawable the background to draw in the gutters
+     * @param layout the layout whose opaque cells are skipped
+     */
+    public GutterDrawable(Drawable drawable, ImageGridLayout layout){
+        super(drawable, 0);
+        this.drawable = drawable;
+        this.layout = layout;
+    }
+
+    /**
+     * @return the background this drawable draws
+     */
+    public Drawable getWrappedDrawable(){
+        return drawable;
+    }
+
+    /**
+     * @return the layout this is the background of
+     */
+    public ImageGridLayout getLayout(){
+        return layout;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void draw(Canvas canvas){
+        GridCells gridCells = layout.getGridCells();
+        if(gridCells.getOpaqueCount() == 0){
+            super.draw(canvas);
+            return;
+        }
+        if(isPlainColor()){
+            int color = ((ColorDrawable)drawable).getColor();
+            if(Color.alpha(color) == 0)
+                return;
+            paint.setColor(color);
+            Rect bounds = getBounds();
+            this.canvas = canvas;
+            boolean filled = gridCells.fillGutters(bounds.left, bounds.top, bounds.right, bounds.bottom,
+                    layout.getCellMargin(), this);
+            this.canvas = null;
+            if(filled)
+                return;
+        }
+        //clipping out a rect isn't supported by hardware canvases before API 18
+        if(Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2 && canvas.isHardwareAccelerated()){
+            super.draw(canvas);
+            return;
+        }
+        int saveCount = canvas.save();
+        this.canvas = canvas;
+        gridCells.clipOut(this);
+        this.canvas = null;
+        super.draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * Checks if the background draws a single color, so the gutters can be filled with it
+     */
+    private boolean isPlainColor(){
+        if(!(drawable instanceof ColorDrawable))
+            return false;
+        //a tint or color filter changes the color the drawable is drawn with
+        return Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP
+                || (layout.getBackgroundTintList() == null && drawable.getColorFilter() == null);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clipOut(int left, int top, int right, int bottom){
+        canvas.clipRect(left, top, right, bottom, Region.Op.DIFFERENCE);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void fill(int left, int top, int right, int bottom){
+        canvas.drawRect(left, top, right, bottom, paint);
+    }
+}
\ No newline at end of file
@@ -1,13 +1,14 @@
 package co.mide.imagegridlayout;
 
-import android.annotation.SuppressLint;
 import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.ColorStateList;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
+import android.graphics.Canvas;
 import android.graphics.Color;
-import android.graphics.PointF;
+import android.graphics.Rect;
+import android.graphics.drawable.ColorDrawable;
 import android.graphics.drawable.Drawable;
 import android.graphics.drawable.RippleDrawable;
 import android.os.Build;
@@ -16,11 +17,12 @@ import android.util.AttributeSet;
 import android.util.DisplayMetrics;
 import android.view.View;
 import android.view.ViewGroup;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
 import android.widget.GridLayout;
 import android.widget.ImageView;
 
 import java.util.HashMap;
-import java.util.LinkedList;
 
 import co.mide.textimageview.TextImageView;
 
@@ -31,19 +33,36 @@ import co.mide.textimageview.TextImageView;
  */
 @SuppressWarnings("unused")
 public class ImageGridLayout extends GridLayout {
-    private LinkedList<GridPosition> queue;
-    private HashMap<Integer, GridPosition> queuePosition;
+    private SplitTree tree;
     private int MARGIN = (int)convertDpToPixel(1, getContext());
     private OnMoreClicked onMoreClickedCallback;
     private OnMoreLongClicked onMoreLongClickedCallback;
     private int moreColor = 0xff111111;
     private int moreTextColor = 0xffffffff;
     private int maxImage = 11;//Integer.MAX_VALUE;
-    //This coincidentally also happens to be the same size as the smallest GridPosition
-    private GridPosition lowerRightCorner;
+    private int maxSplitDepth = -1;
+    private int minCellSize = 0;
     private TextImageView overflowView;
     private int extraImages = 0;
+    //images that are kept in the layout but not shown, as the split limits leave no cell for them
+    private int hiddenImages = 0;
+    //the visibility each hidden image had before it was hidden
+    private final HashMap<View, Integer> hiddenViews = new HashMap<>();
+    private int overflowTextCount = -1;
     private boolean viewRemovedFlag = false;
+    private final GridCells gridCells = new GridCells();
+    private boolean attached = false;
+    private boolean gridCellsListenerAdded = false;
+    private final ViewTreeObserver.OnPreDrawListener gridCellsListener = new ViewTreeObserver.OnPreDrawListener() {
+        @Override
+        public boolean onPreDraw() {
+            //A child can turn see-through without the layout being told, e.g. when a fade only
+            //updates the child's render node. This is only listened for while a cell is skipped
+            if(updateGridCells())
+                invalidate();
+            return true;
+        }
+    };
 
     public ImageGridLayout(Context context){
         super(context);
@@ -78,14 +97,15 @@ public class ImageGridLayout extends GridLayout {
         try {
             setMoreImagesColor(a.getColor(R.styleable.ImageGridLayout_moreColor, moreColor));
             maxImage = a.getInt(R.styleable.ImageGridLayout_maxImageCount, maxImage);
+            maxSplitDepth = checkSplitDepth(a.getInt(R.styleable.ImageGridLayout_maxSplitDepth, maxSplitDepth));
+            minCellSize = checkMinCellSize(a.getDimensionPixelSize(R.styleable.ImageGridLayout_minCellSize, minCellSize));
         } finally {
             a.recycle();
         }
     }
 
     private void init(){
-        queue = new LinkedList<>();
-        queuePosition = new HashMap<>();
+        tree = new SplitTree(0, 0);
     }
 
     /**
@@ -109,18 +129,9 @@ public class ImageGridLayout extends GridLayout {
      */
     public void setMaxImageCount(int count){
         maxImage = count;
-        if(getImageCount() > maxImage){
-            removeExtraViews();
-            updateLayoutRepresentation(getWidth(), getHeight(), maxImage +1, true);
-            updateViews();
-        }else if(getImageCount() < maxImage){
-            if(overflowView != null && overflowView.getParent() == this) {
-                updateLayoutRepresentation(getWidth(), getHeight(), getChildCount() - 1, true);
-                removeView(overflowView);
-                overflowView = null; //hopefully a temporary solution
-                extraImages = 0;
-            }
-        }
+        if(getImageCount() < maxImage)
+            extraImages = 0; //hopefully a temporary solution
+        handleOverflow();
     }
 
     /**
@@ -132,6 +143,64 @@ public class ImageGridLayout extends GridLayout {
         return maxImage;
     }
 
+    /**
+     * This limits how many times a cell can be halved to make room for another image.
+     * Once the layout is that deep, further images are hidden and counted in the more images
+     * count, so the number of columns never goes past 2^depth however many images are added.
+     * Hidden images stay in the layout and are shown again if the limit is raised.
+     * @param depth the maximum split depth, at least 1, or -1 for no limit
+     */
+    public void setMaxSplitDepth(int depth){
+        maxSplitDepth = checkSplitDepth(depth);
+        handleOverflow();
+    }
+
+    private static int checkSplitDepth(int depth){
+        if(depth == 0 || depth < -1)
+            throw new IllegalArgumentException("depth must be at least 1, or -1 for no limit");
+        return depth;
+    }
+
+    /**
+     * @return the maximum split depth, or -1 if there is no limit
+     */
+    public int getMaxSplitDepth(){
+        return maxSplitDepth;
+    }
+
+    /**
+     * This sets the smallest width or height a cell can have.
+     * Images that would need a smaller cell are hidden and counted in the more images count.
+     * The limit is applied each time the layout is measured, so if the layout grows again the
+     * hidden images are shown again. While this is set the overflow view stays in the layout,
+     * hidden until it is needed.
+     * @param size the minimum cell size in pixels, or 0 for no limit
+     */
+    public void setMinCellSize(int size){
+        minCellSize = checkMinCellSize(size);
+        handleOverflow();
+    }
+
+    private static int checkMinCellSize(int size){
+        if(size < 0)
+            throw new IllegalArgumentException("size cannot be a negative number");
+        return size;
+    }
+
+    /**
+     * @return the minimum cell size in pixels
+     */
+    public int getMinCellSize(){
+        return minCellSize;
+    }
+
+    /**
+     * The number of images the split limits leave room for at the current size.
+     */
+    private int getShownImageCount(){
+        return tree.getShownImageCount(getImageCount(), extraImages, maxSplitDepth, minCellSize);
+    }
+
     /**
      * Sets the background color of the more images image
      * @param color the color to set the "more images" image to.
@@ -182,41 +251,50 @@ public class ImageGridLayout extends GridLayout {
     }
 
     private void updateViews(){
-        if(queuePosition.size() != getChildCount())
+        int shownCount = 0;
+        int overflowIndex = -1;
+        for(int i = 0; i < getChildCount(); i++){
+            View child = getChildAt(i);
+            if(child == overflowView && hasCell(child))
+                overflowIndex = shownCount;
+            if(hasCell(child))
+                shownCount++;
+        }
+        if(tree.size() != shownCount)
             return;
-        //update all the children. Since the number of columns could have changed
-        int offset = 0;
-        for(int i = 0; i < queuePosition.size(); i++){
+        //only children whose params changed get new params. Spans are counted in columns, so
+        //without a split limit a split that needs more columns still gives every child new params
+        int shownIndex = 0;
+        for(int i = 0; i < getChildCount(); i++){
             View child = getChildAt(i);
-            GridPosition gridPosition;
-            if (child == overflowView) {
-                gridPosition = lowerRightCorner;
-                if(queuePosition.get(i + offset) == null ||
-                        queuePosition.get(i + offset).getIndex() != lowerRightCorner.getIndex()) {
-                    offset -= 1;
-                }
-            }else {
-                gridPosition = queuePosition.get(i + offset);
-                if (overflowView != null && overflowView.getParent() == this) {
-                    if (lowerRightCorner.getIndex() == gridPosition.getIndex()) {
-                        offset += 1;
-                        gridPosition = queuePosition.get(i + offset);
-                    }
-                }
-            }
             LayoutParams params = (LayoutParams)child.getLayoutParams();
-            layoutParamsFromGridPosition(gridPosition, params);
-            child.setLayoutParams(params);
+            boolean changed;
+            if(hasCell(child))
+                changed = layoutParamsFromGridPosition(tree.getCellForChild(shownIndex++, overflowIndex), params);
+            else
+                changed = hiddenLayoutParams(params);
+            if(changed)
+                child.setLayoutParams(params);
             if(child instanceof ImageView)
                 ((ImageView)child).setScaleType(ImageView.ScaleType.CENTER_CROP);
         }
     }
 
+    /**
+     * Checks if a child has a cell, as opposed to an image hidden by the split limits
+     * or an overflow view that isn't needed.
+     */
+    private boolean hasCell(View child){
+        if(child == overflowView)
+            return child.getVisibility() != GONE;
+        return !hiddenViews.containsKey(child);
+    }
+
     /**
      * @return the number of images displayed in the overflow view
      */
     public int getMoreImagesCount(){
-        return extraImages;
+        return extraImages + hiddenImages;
     }
 
     /**
@@ -231,15 +309,7 @@ public class ImageGridLayout extends GridLayout {
         if (getImageCount() < getMaxImageCount())
             setMaxImageCount(getImageCount());
         extraImages = num;
-
-        if (num == 0 && overflowView != null){
-            removeViewInLayout(overflowView);
-            overflowView = null;
-            updateLayoutRepresentation(getWidth(), getHeight(), getChildCount(), true);
-            updateViews();
-        }else {
-            handleOverflow();
-        }
+        handleOverflow();
     }
 
     private void removeExtraViews(){
@@ -252,66 +322,106 @@ public class ImageGridLayout extends GridLayout {
         viewRemovedFlag = false;
     }
 
-    private void updateLayoutRepresentation(int width, int height, int newSize, boolean reset){
-        int start;
-        if(reset || queue.size() >= newSize){
-            queue = new LinkedList<>();
-            queuePosition.clear();
-            start = 0;
-        }else{
-            start = queue.size();
+    /**
+     * Works out how many images are shown, hides the rest and places every shown child in its cell.
+     * The tree is grown to the final number of cells in one go, so it is never split past the
+     * split limits. Nothing is added or removed, so this is also called while measuring.
+     * The size of the tree is only set in onMeasure, as the width and height of the layout
+     * can differ from the measure spec it was laid out with.
+     */
+    private void updateLayout(){
+        int shownImages = getShownImageCount();
+        hiddenImages = getImageCount() - shownImages;
+        boolean showOverflow = overflowView != null && overflowView.getParent() == this
+                && getMoreImagesCount() > 0;
+
+        int imageIndex = 0;
+        for(int i = 0; i < getChildCount(); i++){
+            View child = getChildAt(i);
+            if(child == overflowView)
+                child.setVisibility(showOverflow ? VISIBLE : GONE);
+            else
+                setHidden(child, imageIndex++ >= shownImages);
+        }
+        if(showOverflow && overflowTextCount != getMoreImagesCount()){
+            overflowTextCount = getMoreImagesCount();
+            overflowView.setText(getResources().getString(R.string.more_images, overflowTextCount));
         }
+        tree.setCellCount(showOverflow ? shownImages + 1 : shownImages);
 
-        for(int i = start; i < newSize; i++) {
-            if(i == 0){
-                GridPosition gridPosition = new GridPosition(width, height);
-                gridPosition.setIndex(i);
-                queuePosition.put(gridPosition.getIndex(), gridPosition);
-                queue.add(gridPosition);
-                lowerRightCorner = gridPosition;
-            }else{
-                GridPosition gridPosition = queue.poll();
-                GridPosition newGridPosition = gridPosition.splitPosition();
-                newGridPosition.setIndex(i);
-                queue.add(newGridPosition);
-                queue.add(gridPosition);
-                queuePosition.put(newGridPosition.getIndex(), newGridPosition);
-                if(newGridPosition.getPositionX() >= lowerRightCorner.getPositionX()
-                        && newGridPosition.getPositionY() >= lowerRightCorner.getPositionY()){
-                    lowerRightCorner = newGridPosition;
-                }
-            }
+        int newColumnCount = getNewColumnCount();
+
+        if (getColumnCount() < newColumnCount) {
+            setColumnCount(newColumnCount);
+            updateViews();
+        } else if (getColumnCount() > newColumnCount){
+            updateViews();
+            setColumnCount(newColumnCount);
+        }else{
+            updateViews();
         }
+    }
 
-        //Check one step into the future for lowerRightCorner
-        if(queue.size() > 0 && queue.size() <= maxImage) {
-            GridPosition cloned = queue.getFirst().clone();
-            GridPosition potentialCorner = cloned.splitPosition();
-            potentialCorner.setIndex(queue.size());
-            if (potentialCorner.getPositionX() >= lowerRightCorner.getPositionX()
-                    && potentialCorner.getPositionY() >= lowerRightCorner.getPositionY()) {
-                lowerRightCorner = potentialCorner;
-            }
+    private void setHidden(View image, boolean hidden){
+        if(hidden && !hiddenViews.containsKey(image)){
+            hiddenViews.put(image, image.getVisibility());
+            image.setVisibility(GONE);
+        }else if(!hidden && hiddenViews.containsKey(image)){
+            image.setVisibility(hiddenViews.remove(image));
         }
     }
 
-    private void layoutParamsFromGridPosition(GridPosition gridPosition, LayoutParams params){
+    /**
+     * Sets params to place a view in gridPosition
+     * @return true if params changed
+     */
+    private boolean layoutParamsFromGridPosition(GridPosition gridPosition, LayoutParams params){
         int columnCount = getNewColumnCount();
+        int height = gridPosition.getHeight() - 2*MARGIN;
+        int width = gridPosition.getWidth() - 2*MARGIN;
+        Spec columnSpec = GridLayout.spec(gridPosition.getColumn(columnCount),
+                gridPosition.getColumnSpan(columnCount));
+        Spec rowSpec = GridLayout.spec(gridPosition.getRow(columnCount),
+                gridPosition.getRowSpan(columnCount));
+        if(params.leftMargin == MARGIN && params.topMargin == MARGIN
+                && params.rightMargin == MARGIN && params.bottomMargin == MARGIN
+                && params.height == height && params.width == width
+                && columnSpec.equals(params.columnSpec) && rowSpec.equals(params.rowSpec))
+            return false;
 
         params.setMargins(MARGIN, MARGIN, MARGIN, MARGIN);
-        params.height = gridPosition.getHeight() - params.topMargin - params.bottomMargin;
-        params.width = gridPosition.getWidth() - params.leftMargin - params.rightMargin;
-        params.columnSpec = GridLayout.spec((int)(gridPosition.getPositionX()*columnCount),
-                columnCount/gridPosition.getInverseWidth());
-        params.rowSpec = GridLayout.spec((int)(gridPosition.getPositionY()*columnCount),
-                columnCount/gridPosition.getInverseHeight());
+        params.height = height;
+        params.width = width;
+        params.columnSpec = columnSpec;
+        params.rowSpec = rowSpec;
+        return true;
     }
 
+    /**
+     * Sets params for a child that isn't shown, so its old spans can't go past the column count
+     * @return true if params changed
+     */
+    private boolean hiddenLayoutParams(LayoutParams params){
+        Spec spec = GridLayout.spec(0, 1);
+        if(params.width == 0 && params.height == 0
+                && spec.equals(params.columnSpec) && spec.equals(params.rowSpec))
+            return false;
+        params.setMargins(0, 0, 0, 0);
+        params.height = 0;
+        params.width = 0;
+        params.columnSpec = spec;
+        params.rowSpec = spec;
+        return true;
+    }
+
+    /**
+     * With a split limit the column count of a full layout is known up front. Using it from the
+     * start keeps spans the same as images are added, so only the split cell and the new image
+     * get new params. Without a limit the column count grows with the layout.
+     */
     private int getNewColumnCount(){
-        if(!queue.isEmpty())
-            return queue.getLast().getInverseWidth() > queue.getLast().getInverseHeight() ?
-                queue.getLast().getInverseWidth() : queue.getLast().getInverseHeight();
-        return 1;
+        int maxColumnCount = tree.getMaxColumnCount(maxSplitDepth, minCellSize);
+        return Math.max(maxColumnCount, tree.getColumnCount());
     }
 
     /**
@@ -335,70 +445,70 @@ public class ImageGridLayout extends GridLayout {
      * Add view to layout without index checking
      */
     private void addView1(View child, int index){
-        if(getChildCount() <= getMaxImageCount()) {
-            updateLayoutRepresentation(getWidth(), getHeight(), getChildCount() + 1, false);
-        }
-
-        //set the new view parameters
         if (child instanceof ImageView)
             ((ImageView) child).setScaleType(ImageView.ScaleType.CENTER_CROP);
-        GridPosition gridPosition = queuePosition.get(index);
-        LayoutParams params = new LayoutParams();
-        layoutParamsFromGridPosition(gridPosition, params);
-
-        //Set the column count
-        int newColumnCount = getNewColumnCount();
-
-        if (getColumnCount() < newColumnCount) {
-            setColumnCount(newColumnCount);
-            super.addView(child, index, params);
-            updateViews();
-        } else {
-            if(index == getImageCount() && index != getChildCount()){
-                super.addView(child, -1, params);
-            }else {
-                super.addView(child, index, params);
-            }
-            updateViews();
-            setColumnCount(newColumnCount);
-        }
-
+        //index counts images, so skip over the overflow view if it comes first
+        int overflowIndex = (overflowView != null && overflowView.getParent() == this) ?
+                indexOfChild(overflowView) : -1;
+        if(overflowIndex >= 0 && overflowIndex < index)
+            index++;
+        //the child is given its cell by updateLayout(), once it is known if it is shown
+        super.addView(child, index, new LayoutParams());
         handleOverflow();
     }
 
+    /**
+     * Discards the images past maxImage, adds or removes the overflow view and updates the layout.
+     * This adds and removes children, so it is never called while measuring.
+     */
     private void handleOverflow(){
         //If max images reached
-        if(getImageCount() >= getMaxImageCount()){
-            if(overflowView == null) {
-                overflowView = new TextImageView(getContext());
-            }
+        if(getImageCount() > maxImage){
             removeExtraViews();
-            updateLayoutRepresentation(getWidth(), getHeight(), getChildCount(), true);
         }
 
-        //setup overflow view
-        if(extraImages > 0){
-            overflowView.setText(getResources().getString(R.string.more_images, extraImages));
-            int color = ColorUtils.blendARGB(moreTextColor, moreColor, 0.4f);
-            if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-                RippleDrawable rippledImage = new RippleDrawable(
-                        ColorStateList.valueOf(color), null, null);
-                overflowView.setForeground(rippledImage);
-            }else{
-                int[] attrs = new int[] { android.R.attr.selectableItemBackground /* index 0 */};
-                TypedArray ta = getContext().obtainStyledAttributes(attrs);
-                Drawable drawableFromTheme = ta.getDrawable(0 /* index */);
-                ta.recycle();
-                overflowView.setForeground(drawableFromTheme);
+        if(needsOverflowView()){
+            if(overflowView == null) {
+                overflowView = new TextImageView(getContext());
             }
-            overflowView.setTextColor(moreTextColor).setImageBackgroundColor(moreColor);
-
-            addClickListeners();
-
             if(overflowView.getParent() != this) {
-                addView1(overflowView, lowerRightCorner.getIndex());
+                setupOverflowView();
+                super.addView(overflowView, -1, new LayoutParams());
             }
+        }else if(overflowView != null && overflowView.getParent() == this){
+            removeView(overflowView);
+            overflowView = null; //hopefully a temporary solution
         }
+        updateLayout();
+    }
+
+    /**
+     * The overflow view is needed while there are images it counts. With a minimum cell size
+     * the number of images shown depends on the size the layout is measured at, and the overflow
+     * view can't be added while measuring, so it is kept as long as there are images.
+     */
+    private boolean needsOverflowView(){
+        int imageCount = getImageCount();
+        return extraImages > 0 || getShownImageCount() < imageCount || (minCellSize > 0 && imageCount > 0);
+    }
+
+    private void setupOverflowView(){
+        overflowTextCount = -1;
+        int color = ColorUtils.blendARGB(moreTextColor, moreColor, 0.4f);
+        if(Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            RippleDrawable rippledImage = new RippleDrawable(
+                    ColorStateList.valueOf(color), null, null);
+            overflowView.setForeground(rippledImage);
+        }else{
+            int[] attrs = new int[] { android.R.attr.selectableItemBackground /* index 0 */};
+            TypedArray ta = getContext().obtainStyledAttributes(attrs);
+            Drawable drawableFromTheme = ta.getDrawable(0 /* index */);
+            ta.recycle();
+            overflowView.setForeground(drawableFromTheme);
+        }
+        overflowView.setTextColor(moreTextColor).setImageBackgroundColor(moreColor);
+
+        addClickListeners();
     }
 
     private void addClickListeners(){
@@ -447,20 +557,53 @@ public class ImageGridLayout extends GridLayout {
      */
     @Override
     public void onMeasure(int widthMeasureSpec, int heightMeasureSpec){
-        updateLayoutRepresentation(View.MeasureSpec.getSize(widthMeasureSpec), View.MeasureSpec.getSize(heightMeasureSpec), getChildCount(), true);
+        tree.setSize(View.MeasureSpec.getSize(widthMeasureSpec), View.MeasureSpec.getSize(heightMeasureSpec));
+        //the minimum cell size allows a different number of cells at each size. Images that don't
+        //fit are only hidden, so a short lived smaller measure pass doesn't lose any
+        updateLayout();
+        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    }
 
-        int newColumnCount = getNewColumnCount();
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onAttachedToWindow(){
+        super.onAttachedToWindow();
+        attached = true;
+        updateGridCellsListener();
+    }
 
-        if (getColumnCount() < newColumnCount) {
-            setColumnCount(newColumnCount);
-            updateViews();
-        } else if (getColumnCount() > newColumnCount){
-            updateViews();
-            setColumnCount(newColumnCount);
-        }else{
-            updateViews();
-        }
-        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void onDetachedFromWindow(){
+        attached = false;
+        updateGridCellsListener();
+        super.onDetachedFromWindow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void draw(Canvas canvas){
+        //the background is drawn around the cells as they are now
+        updateGridCells();
+        super.draw(canvas);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ViewParent invalidateChildInParent(int[] location, Rect dirty){
+        //a child that redraws, e.g. after losing its drawable, may no longer hide the background.
+        //With hardware acceleration that doesn't redraw the layout, so it is invalidated here
+        if(updateGridCells())
+            invalidate();
+        return super.invalidateChildInParent(location, dirty);
     }
 
     /**
@@ -469,17 +612,129 @@ public class ImageGridLayout extends GridLayout {
     @Override
     public void onViewRemoved(View view) {
         super.onViewRemoved(view);
+        if(hiddenViews.containsKey(view))
+            view.setVisibility(hiddenViews.remove(view));
         if (view != overflowView){
-            if (extraImages < 0 || getImageCount() < getMaxImageCount()) {
+            if (extraImages < 0 || getImageCount() < maxImage) {
                 extraImages = 0;
             }if (overflowView != null && overflowView.getParent() == this && !viewRemovedFlag) {
-                removeView(overflowView);
-                overflowView = null;
                 extraImages = 0;
+                if(!needsOverflowView()) {
+                    removeView(overflowView);
+                    overflowView = null;
+                }
             }
         }
     }
 
+    /**
+     * Sets the background of the layout.
+     * The background is wrapped so that it is only drawn in the gutters and behind cells
+     * that can be seen through, as drawing it behind an opaque image is wasted work.
+     * @param background the background of the layout, or null to remove it
+     */
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setBackgroundDrawable(Drawable background){
+        if(background instanceof GutterDrawable){
+            GutterDrawable gutterDrawable = (GutterDrawable)background;
+            if(gutterDrawable.getLayout() != this)
+                background = new GutterDrawable(gutterDrawable.getWrappedDrawable(), this);
+        }else if(background != null){
+            background = new GutterDrawable(background, this);
+        }
+        super.setBackgroundDrawable(background);
+    }
+
+    /**
+     * {@inheritDoc}
+     * This is the drawable that was set, not the wrapper that draws it in the gutters.
+     */
+    @Override
+    public Drawable getBackground(){
+        Drawable background = super.getBackground();
+        if(background instanceof GutterDrawable)
+            return ((GutterDrawable)background).getWrappedDrawable();
+        return background;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setBackgroundColor(int color){
+        Drawable background = getBackground();
+        //update the color in place as long as that doesn't change whether the background is opaque
+        if(background instanceof ColorDrawable
+                && Color.alpha(((ColorDrawable)background).getColor()) == Color.alpha(color)){
+            ((ColorDrawable)background.mutate()).setColor(color);
+        }else{
+            super.setBackgroundColor(color);
+        }
+    }
+
+    /**
+     * Checks if a child hides everything drawn behind it
+     */
+    private boolean isOpaqueCell(View child){
+        if(child.getVisibility() != VISIBLE || child.getAlpha() < 1 || child.getAnimation() != null
+                || !child.getMatrix().isIdentity())
+            return false;
+        if(child == overflowView)
+            return Color.alpha(moreColor) == 0xff;
+        return child.isOpaque();
+    }
+
+    /**
+     * Collects the bounds of every cell, relative to the background
+     * @return true if the cells changed since the background was last drawn
+     */
+    private boolean updateGridCells(){
+        boolean changed = false;
+        if(super.getBackground() != null){
+            gridCells.startUpdate();
+            for(int i = 0; i < getChildCount(); i++){
+                View child = getChildAt(i);
+                if(child.getVisibility() != GONE){
+                    gridCells.add(child.getLeft() - getScrollX(), child.getTop() - getScrollY(),
+                            child.getRight() - getScrollX(), child.getBottom() - getScrollY(),
+                            isOpaqueCell(child));
+                }
+            }
+            changed = gridCells.finishUpdate();
+        }
+        updateGridCellsListener();
+        return changed;
+    }
+
+    /**
+     * Listens for frames only while the background is skipped behind a cell, so layouts
+     * without a background, or with nothing opaque on top of it, cost nothing per frame.
+     */
+    private void updateGridCellsListener(){
+        boolean needed = attached && super.getBackground() != null && gridCells.getOpaqueCount() > 0;
+        if(needed && !gridCellsListenerAdded){
+            getViewTreeObserver().addOnPreDrawListener(gridCellsListener);
+        }else if(!needed && gridCellsListenerAdded){
+            getViewTreeObserver().removeOnPreDrawListener(gridCellsListener);
+        }
+        gridCellsListenerAdded = needed;
+    }
+
+    /**
+     * @return the cells the background is drawn around
+     */
+    GridCells getGridCells(){
+        return gridCells;
+    }
+
+    /**
+     * @return the margin around every cell in pixels
+     */
+    int getCellMargin(){
+        return MARGIN;
+    }
+
     /**
      * This method returns the number of images the layout contains.
      * Note that this method is different from getChildCount() as this method
@@ -501,110 +756,4 @@ public class ImageGridLayout extends GridLayout {
     public interface OnMoreLongClicked{
         boolean onMoreLongClicked(ImageGridLayout layout);
     }
-
-    /**
-     * object that holds information on how to size and position image
-     * Created by Olumide on 6/14/2016.
-     */
-    class GridPosition implements Cloneable{
-        private int layoutWidth, layoutHeight;
-        private int inverseWidth = 1;
-        private int inverseHeight = 1;
-        private PointF position;
-        private int index;
-
-        /**
-         * Constructor for GridPosition
-         * @param layoutWidth this is the layoutWidth of the GridLayout
-         * @param layoutHeight this is the layoutHeight of the GridLayout
-         */
-        public GridPosition(int layoutWidth, int layoutHeight){
-            this.layoutWidth = layoutWidth;
-            this.layoutHeight = layoutHeight;
-            this.position = new PointF(0, 0);
-        }
-
-        public int getWidth(){
-            return layoutWidth /inverseWidth;
-        }
-
-        public int getHeight(){
-            return layoutHeight /inverseHeight;
-        }
-
-        public int getInverseWidth(){
-            return inverseWidth;
-        }
-
-        public int getInverseHeight(){
-            return inverseHeight;
-        }
-
-        public float getPositionX(){
-            return position.x;
-        }
-
-        public float getPositionY(){
-            return position.y;
-        }
-
-        public void setIndex(int index){
-            this.index = index;
-        }
-
-        public int getIndex(){
-            return this.index;
-        }
-
-        public GridPosition splitPosition(){
-            GridPosition newPosition = new GridPosition(layoutWidth, layoutHeight);
-            if(getHeight() >= getWidth()){
-                inverseHeight *= 2;
-                newPosition.position = new PointF(position.x, position.y+(1.0f/inverseHeight));
-            }else{
-                inverseWidth *= 2;
-                newPosition.position = new PointF(position.x+(1.0f/inverseWidth), position.y);
-            }
-            newPosition.inverseWidth = this.inverseWidth;
-            newPosition.inverseHeight = this.inverseHeight;
-            return newPosition;
-        }
-
-        @SuppressLint("all")
-        @SuppressWarnings("all")
-        @Override
-        public String toString(){
-            StringBuilder result = new StringBuilder();
-            result.append(this.getClass().getName());
-            result.append(" Object {");
-            result.append("\n  layoutWidth: ");
-            result.append(layoutWidth);
-            result.append("\n  layoutHeight: ");
-            result.append(layoutHeight);
-            result.append("\n  inverseWidth: ");
-            result.append(inverseWidth);
-            result.append("\n  inverseHeight: ");
-            result.append(inverseHeight);
-            result.append("\n  index: ");
-            result.append(index);
-            result.append("\n  position: ");
-            result.append(position);
-            result.append("\n}");
-            return result.toString();
-        }
-
-        /**
-         *@inheritDoc
-         */
-        @Override
-        @SuppressWarnings("all")
-        public GridPosition clone(){
-            GridPosition clone = new GridPosition(getWidth(), getHeight());
-            clone.index = index;
-            clone.position = new PointF(position.x, position.y);
-            clone.inverseWidth = inverseWidth;
-            clone.inverseHeight = inverseHeight;
-            return clone;
-        }
-    }
 }
\ No newline at end of file
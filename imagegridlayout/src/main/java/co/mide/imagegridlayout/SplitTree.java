@@ -0,0 +1,232 @@
+package co.mide.imagegridlayout;
+
+import java.util.ArrayList;
+
+/**
+ * The layout representation of an ImageGridLayout.
+ * Cells are created by repeatedly halving the oldest, largest cell, so the layout for n cells
+ * is the layout for n - 1 cells with exactly one more split. Adding or removing a cell
+ * therefore only resizes one existing cell, and the tree is updated in place instead of
+ * being rebuilt.
+ */
+class SplitTree {
+    private int width, height;
+    //cells in the order they were split off, cells.get(i).getIndex() == i
+    private final ArrayList<GridPosition> cells = new ArrayList<>();
+    //split order; the cell at head is the next one to be split
+    private final ArrayList<GridPosition> queue = new ArrayList<>();
+    private int head = 0;
+    //corners.get(i) is the lower right corner among the first i + 1 cells
+    private final ArrayList<GridPosition> corners = new ArrayList<>();
+    private int columnCount = 1;
+
+    SplitTree(int width, int height){
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets the size of the layout. The tree is only rebuilt if the size actually changed.
+     * @return true if the tree was rebuilt
+     */
+    boolean setSize(int width, int height){
+        if(this.width == width && this.height == height)
+            return false;
+        this.width = width;
+        this.height = height;
+        int size = size();
+        clear();
+        setCellCount(size);
+        return true;
+    }
+
+    int getWidth(){
+        return width;
+    }
+
+    int getHeight(){
+        return height;
+    }
+
+    int size(){
+        return cells.size();
+    }
+
+    GridPosition get(int index){
+        return cells.get(index);
+    }
+
+    /**
+     * Grows or shrinks the tree one split at a time until it holds count cells
+     */
+    void setCellCount(int count){
+        while(size() < count)
+            split();
+        while(size() > count)
+            merge();
+    }
+
+    private void clear(){
+        cells.clear();
+        queue.clear();
+        corners.clear();
+        head = 0;
+        columnCount = 1;
+    }
+
+    private void split(){
+        GridPosition newPosition;
+        if(cells.isEmpty()){
+            newPosition = new GridPosition(width, height);
+        }else{
+            GridPosition gridPosition = queue.get(head++);
+            newPosition = gridPosition.splitPosition();
+            queue.add(newPosition);
+            queue.add(gridPosition);
+        }
+        newPosition.setIndex(cells.size());
+        cells.add(newPosition);
+        if(queue.isEmpty())
+            queue.add(newPosition);
+
+        GridPosition corner = corners.isEmpty() ? newPosition : corners.get(corners.size() - 1);
+        corners.add(newPosition.isLowerRightOf(corner) ? newPosition : corner);
+
+        int neededColumnCount = getNeededColumnCount();
+        if(neededColumnCount > columnCount)
+            columnCount = neededColumnCount;
+    }
+
+    private void merge(){
+        GridPosition newPosition = cells.remove(cells.size() - 1);
+        corners.remove(corners.size() - 1);
+        if(cells.isEmpty()){
+            queue.clear();
+            head = 0;
+            columnCount = 1;
+            return;
+        }
+        GridPosition gridPosition = queue.remove(queue.size() - 1);
+        queue.remove(queue.size() - 1);
+        gridPosition.mergePosition(newPosition);
+        head--;
+    }
+
+    /**
+     * @return the cell that was split most recently, or null if nothing has been split
+     */
+    private GridPosition lastSplit(){
+        return head == 0 ? null : queue.get(queue.size() - 1);
+    }
+
+    /**
+     * The number of columns (and rows) every cell is placed on.
+     * Spans are counted in columns, so a new column count changes the span of every cell.
+     * To keep removing and re-adding a cell from doing that, this only grows as cells are split,
+     * and only goes back down when the tree is emptied or rebuilt.
+     * @see #getMaxColumnCount(int, int)
+     */
+    int getColumnCount(){
+        return columnCount;
+    }
+
+    /**
+     * The number of columns (and rows) needed to place every cell on a whole column
+     */
+    private int getNeededColumnCount(){
+        GridPosition last = lastSplit();
+        if(last == null)
+            return 1;
+        return last.getInverseWidth() > last.getInverseHeight() ?
+                last.getInverseWidth() : last.getInverseHeight();
+    }
+
+    /**
+     * Gets the number of cells the tree can hold without splitting past a limit.
+     * Every cell of the same depth has the same size, so this only follows one cell down.
+     * @param maxDepth the most times a cell may be halved, or -1 for no limit
+     * @param minCellSize the smallest width or height a cell may have in pixels, or 0 for no limit.
+     *                    This is ignored until the tree has a size.
+     * @return the largest number of cells allowed
+     */
+    int getCapacity(int maxDepth, int minCellSize){
+        //2^30 is the most cells an int can count
+        int depthLimit = (maxDepth < 0 || maxDepth > 30) ? 30 : maxDepth;
+        boolean sized = width > 0 && height > 0;
+        GridPosition gridPosition = new GridPosition(width, height);
+        int capacity = 1;
+        for(int depth = 0; depth < depthLimit; depth++){
+            GridPosition half = gridPosition.splitPosition();
+            if(sized && (half.getWidth() < minCellSize || half.getHeight() < minCellSize))
+                break;
+            capacity *= 2;
+        }
+        return (maxDepth < 0 && capacity == 1 << 30) ? Integer.MAX_VALUE : capacity;
+    }
+
+    /**
+     * Gets the number of columns the tree needs once it is filled up to its capacity.
+     * The tree never needs more, so with a limit this column count can be used from the start.
+     * @param maxDepth the most times a cell may be halved, or -1 for no limit
+     * @param minCellSize the smallest width or height a cell may have in pixels, or 0 for no limit
+     * @return the column count of a full tree, or -1 if there is no limit
+     */
+    int getMaxColumnCount(int maxDepth, int minCellSize){
+        int capacity = getCapacity(maxDepth, minCellSize);
+        if(capacity == Integer.MAX_VALUE)
+            return -1;
+        //a full tree is all cells of the same depth, so again only one cell is followed down
+        GridPosition gridPosition = new GridPosition(width, height);
+        for(int cells = 1; cells < capacity; cells *= 2)
+            gridPosition.splitPosition();
+        return gridPosition.getInverseWidth() > gridPosition.getInverseHeight() ?
+                gridPosition.getInverseWidth() : gridPosition.getInverseHeight();
+    }
+
+    /**
+     * Gets how many images the layout shows within the split depth and cell size limits.
+     * Every image is shown if they all fit, otherwise one cell is kept for the overflow view.
+     * The tree never needs more cells than the limits allow, so it is never split past them.
+     * @param imageCount the number of images in the layout
+     * @param extraImages the number of images already in the overflow view
+     * @param maxDepth the most times a cell may be halved, or -1 for no limit
+     * @param minCellSize the smallest width or height a cell may have in pixels, or 0 for no limit
+     * @return the number of images the layout shows
+     */
+    int getShownImageCount(int imageCount, int extraImages, int maxDepth, int minCellSize){
+        int capacity = getCapacity(maxDepth, minCellSize);
+        if(extraImages == 0 && imageCount <= capacity)
+            return imageCount;
+        //an overflow view on its own isn't a layout, so always leave room for one image
+        return Math.min(imageCount, Math.max(capacity - 1, 1));
+    }
+
+    /**
+     * Gets the cell furthest to the bottom right
+     * @return the lower right cell, or null if the tree is empty
+     */
+    GridPosition getLowerRightCorner(){
+        if(cells.isEmpty())
+            return null;
+        return corners.get(corners.size() - 1);
+    }
+
+    /**
+     * Gets the cell a child of the layout is placed in.
+     * Images fill the cells in order, skipping the lower right corner if the overflow view
+     * is showing, and the overflow view takes the corner.
+     * @param childIndex the index of the child among the children that are shown
+     * @param overflowIndex the index of the overflow view among the children that are shown,
+     *                      or -1 if it isn't showing
+     * @return the cell the child should be placed in
+     */
+    GridPosition getCellForChild(int childIndex, int overflowIndex){
+        if(overflowIndex < 0)
+            return cells.get(childIndex);
+        GridPosition corner = getLowerRightCorner();
+        if(childIndex == overflowIndex)
+            return corner;
+        int imageIndex = childIndex < overflowIndex ? childIndex : childIndex - 1;
+        return cells.get(imageIndex < corner.getIndex() ? imageIndex : imageIndex + 1);
+    }
+}
\ No newline at end of file
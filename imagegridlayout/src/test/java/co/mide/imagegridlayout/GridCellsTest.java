@@ -0,0 +1,143 @@
+package co.mide.imagegridlayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Counts per pixel overdraw of the background drawn around the cells of a grid, then each cell
+ * drawn on top. A real layout is drawn and counted in the instrumented OverdrawTest.
+ */
+public class GridCellsTest {
+    private static final int WIDTH = 256;
+    private static final int HEIGHT = 128;
+    private static final int MARGIN = 1;
+    private static final int PADDING = 3;
+    private static final int CELLS = 5;
+
+    @Test
+    public void fillGutters_drawsEveryPixelOnce() throws Exception {
+        SplitTree tree = grid();
+        GridCells gridCells = new GridCells();
+        update(tree, gridCells, -1, -1);
+        OverdrawCounter counter = counter();
+        assertTrue(fillGutters(gridCells, counter));
+        drawCells(tree, counter, -1);
+
+        assertEquals(0, counter.getPixelCount(0));
+        assertEquals(1, counter.getMaxDrawCount(0, 0, WIDTH + 2*PADDING, HEIGHT + 2*PADDING));
+    }
+
+    @Test
+    public void seeThroughCell_isFilledBehind() throws Exception {
+        SplitTree tree = grid();
+        GridCells gridCells = new GridCells();
+        update(tree, gridCells, 0, -1);
+        OverdrawCounter counter = counter();
+        assertTrue(fillGutters(gridCells, counter));
+        drawCells(tree, counter, -1);
+
+        int[] seeThrough = cellRect(tree.get(0));
+        assertEquals(2, counter.getDrawCount(seeThrough[0], seeThrough[1]));
+        assertEquals(0, counter.getPixelCount(0));
+        assertEquals((seeThrough[2] - seeThrough[0])*(seeThrough[3] - seeThrough[1]), counter.getPixelCount(2));
+    }
+
+    @Test
+    public void cellsWithGap_fallBackToClip() throws Exception {
+        SplitTree tree = grid();
+        GridCells gridCells = new GridCells();
+        //e.g. a child that is gone while the rest of the layout hasn't moved yet
+        update(tree, gridCells, -1, 2);
+        OverdrawCounter counter = counter();
+        assertFalse(fillGutters(gridCells, counter));
+        assertEquals(0, counter.getTotalDrawCount());
+
+        gridCells.clipOut(counter);
+        counter.drawRect(0, 0, WIDTH + 2*PADDING, HEIGHT + 2*PADDING);
+        counter.clearClip();
+        drawCells(tree, counter, 2);
+        assertEquals(0, counter.getPixelCount(0));
+        assertEquals(1, counter.getMaxDrawCount(0, 0, WIDTH + 2*PADDING, HEIGHT + 2*PADDING));
+    }
+
+    @Test
+    public void clipOut_onlyClipsOpaqueCells() throws Exception {
+        SplitTree tree = grid();
+        GridCells gridCells = new GridCells();
+        update(tree, gridCells, 0, -1);
+        assertEquals(CELLS - 1, gridCells.getOpaqueCount());
+        OverdrawCounter counter = counter();
+        gridCells.clipOut(counter);
+        counter.drawRect(0, 0, WIDTH + 2*PADDING, HEIGHT + 2*PADDING);
+
+        int[] seeThrough = cellRect(tree.get(0));
+        assertEquals(1, counter.getDrawCount(seeThrough[0], seeThrough[1]));
+        int[] opaque = cellRect(tree.get(1));
+        assertEquals(0, counter.getDrawCount(opaque[0], opaque[1]));
+    }
+
+    @Test
+    public void cellTurningSeeThrough_redrawsBackground() throws Exception {
+        SplitTree tree = grid();
+        GridCells gridCells = new GridCells();
+        assertTrue(update(tree, gridCells, -1, -1));
+        //nothing changed, so the layout doesn't need to redraw its background
+        assertFalse(update(tree, gridCells, -1, -1));
+        //e.g. the first image fading out or losing its drawable
+        assertTrue(update(tree, gridCells, 0, -1));
+        //and back to opaque
+        assertTrue(update(tree, gridCells, -1, -1));
+        assertEquals(CELLS, gridCells.getOpaqueCount());
+    }
+
+    private static SplitTree grid(){
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        tree.setCellCount(CELLS);
+        return tree;
+    }
+
+    private static OverdrawCounter counter(){
+        return new OverdrawCounter(WIDTH + 2*PADDING, HEIGHT + 2*PADDING);
+    }
+
+    private static boolean fillGutters(GridCells gridCells, OverdrawCounter counter){
+        return gridCells.fillGutters(0, 0, WIDTH + 2*PADDING, HEIGHT + 2*PADDING, MARGIN, counter);
+    }
+
+    /**
+     * Collects the cells the way ImageGridLayout does when it draws
+     * @param seeThroughCell a cell that isn't opaque, or -1 if every cell is
+     * @param goneCell a cell that has no child, or -1 if every cell has one
+     * @return true if the background has to be redrawn
+     */
+    private static boolean update(SplitTree tree, GridCells gridCells, int seeThroughCell, int goneCell){
+        gridCells.startUpdate();
+        for(int i = 0; i < CELLS; i++){
+            if(i == goneCell)
+                continue;
+            int[] rect = cellRect(tree.get(i));
+            gridCells.add(rect[0], rect[1], rect[2], rect[3], i != seeThroughCell);
+        }
+        return gridCells.finishUpdate();
+    }
+
+    private static void drawCells(SplitTree tree, OverdrawCounter counter, int goneCell){
+        for(int i = 0; i < CELLS; i++){
+            if(i == goneCell)
+                continue;
+            int[] rect = cellRect(tree.get(i));
+            counter.drawRect(rect[0], rect[1], rect[2], rect[3]);
+        }
+    }
+
+    /**
+     * The bounds of the view placed in gridPosition, inside its margins and the layout's padding
+     */
+    private static int[] cellRect(GridPosition gridPosition){
+        int left = (int)(gridPosition.getPositionX()*WIDTH) + MARGIN + PADDING;
+        int top = (int)(gridPosition.getPositionY()*HEIGHT) + MARGIN + PADDING;
+        return new int[]{left, top, left + gridPosition.getWidth() - 2*MARGIN,
+                top + gridPosition.getHeight() - 2*MARGIN};
+    }
+}
\ No newline at end of file
@@ -0,0 +1,92 @@
+package co.mide.imagegridlayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A fake canvas that counts how many times each pixel is drawn on.
+ * Like Canvas.clipRect(rect, Region.Op.DIFFERENCE), clipped out rects are not drawn on.
+ */
+class OverdrawCounter implements GridCells.Clip, GridCells.Fill {
+    private final int width, height;
+    private final int[] counts;
+    private final List<int[]> clippedOut = new ArrayList<>();
+
+    OverdrawCounter(int width, int height){
+        this.width = width;
+        this.height = height;
+        this.counts = new int[width*height];
+    }
+
+    @Override
+    public void clipOut(int left, int top, int right, int bottom){
+        clippedOut.add(new int[]{left, top, right, bottom});
+    }
+
+    @Override
+    public void fill(int left, int top, int right, int bottom){
+        drawRect(left, top, right, bottom);
+    }
+
+    void clearClip(){
+        clippedOut.clear();
+    }
+
+    void drawRect(int left, int top, int right, int bottom){
+        for(int y = Math.max(top, 0); y < Math.min(bottom, height); y++){
+            for(int x = Math.max(left, 0); x < Math.min(right, width); x++){
+                if(!isClippedOut(x, y))
+                    counts[y*width + x]++;
+            }
+        }
+    }
+
+    private boolean isClippedOut(int x, int y){
+        for(int[] rect : clippedOut){
+            if(x >= rect[0] && y >= rect[1] && x < rect[2] && y < rect[3])
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of times the pixel at x, y was drawn on
+     */
+    int getDrawCount(int x, int y){
+        return counts[y*width + x];
+    }
+
+    /**
+     * @return the highest number of times any pixel in the region was drawn on
+     */
+    int getMaxDrawCount(int left, int top, int right, int bottom){
+        int max = 0;
+        for(int y = top; y < bottom; y++){
+            for(int x = left; x < right; x++)
+                max = Math.max(max, getDrawCount(x, y));
+        }
+        return max;
+    }
+
+    /**
+     * @return the number of pixels that were drawn on exactly times times
+     */
+    int getPixelCount(int times){
+        int pixels = 0;
+        for(int count : counts){
+            if(count == times)
+                pixels++;
+        }
+        return pixels;
+    }
+
+    /**
+     * @return the sum of every pixel's draw count
+     */
+    long getTotalDrawCount(){
+        long total = 0;
+        for(int count : counts)
+            total += count;
+        return total;
+    }
+}
\ No newline at end of file
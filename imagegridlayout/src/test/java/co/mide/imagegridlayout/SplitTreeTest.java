@@ -0,0 +1,123 @@
+package co.mide.imagegridlayout;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the split tree is updated in place. How many children of the layout get new
+ * LayoutParams for each insert or remove is counted on a real layout in ImageGridLayoutTest.
+ */
+public class SplitTreeTest {
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+
+    @Test
+    public void incrementalUpdates_matchRebuiltTree() throws Exception {
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        for(int count : new int[]{1, 5, 11, 3, 16, 0, 7}){
+            tree.setCellCount(count);
+            SplitTree rebuilt = new SplitTree(WIDTH, HEIGHT);
+            rebuilt.setCellCount(count);
+            assertEquals(rebuilt.size(), tree.size());
+            //the column count only goes back down once the tree is emptied
+            assertTrue(tree.getColumnCount() >= rebuilt.getColumnCount());
+            for(int i = 0; i < count; i++){
+                assertEquals(rebuilt.get(i).getPositionX(), tree.get(i).getPositionX(), 0);
+                assertEquals(rebuilt.get(i).getPositionY(), tree.get(i).getPositionY(), 0);
+                assertEquals(rebuilt.get(i).getWidth(), tree.get(i).getWidth());
+                assertEquals(rebuilt.get(i).getHeight(), tree.get(i).getHeight());
+            }
+        }
+    }
+
+    @Test
+    public void setSize_onlyRebuildsWhenSizeChanges() throws Exception {
+        SplitTree tree = new SplitTree(0, 0);
+        tree.setCellCount(4);
+        assertTrue(tree.setSize(WIDTH, HEIGHT));
+        assertFalse(tree.setSize(WIDTH, HEIGHT));
+        assertEquals(4, tree.size());
+        assertEquals(WIDTH/2, tree.get(0).getWidth());
+    }
+
+    @Test
+    public void removeAndReAdd_keepsColumnCount() throws Exception {
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        tree.setCellCount(5);
+        int columnCount = tree.getColumnCount();
+        //dropping back to 4 cells doesn't shrink the column count, so no other span changes
+        tree.setCellCount(4);
+        assertEquals(columnCount, tree.getColumnCount());
+        tree.setCellCount(5);
+        assertEquals(columnCount, tree.getColumnCount());
+    }
+
+    @Test
+    public void maxColumnCount_matchesFullTree() throws Exception {
+        for(int depth = 1; depth <= 8; depth++){
+            SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+            int maxColumnCount = tree.getMaxColumnCount(depth, 0);
+            for(int count = 1; count <= 1 << depth; count++){
+                tree.setCellCount(count);
+                assertTrue(tree.getColumnCount() <= maxColumnCount);
+            }
+            assertEquals(maxColumnCount, tree.getColumnCount());
+        }
+        assertEquals(4, new SplitTree(WIDTH, HEIGHT).getMaxColumnCount(4, 0));
+        assertEquals(-1, new SplitTree(WIDTH, HEIGHT).getMaxColumnCount(-1, 0));
+    }
+
+    @Test
+    public void emptyTree_resetsColumnCount() throws Exception {
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        tree.setCellCount(17);
+        tree.setCellCount(0);
+        tree.setCellCount(2);
+        assertEquals(2, tree.getColumnCount());
+    }
+
+    @Test
+    public void overflowView_takesLowerRightCorner() throws Exception {
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        tree.setCellCount(4);
+        GridPosition corner = tree.getLowerRightCorner();
+        for(int i = 0; i < 4; i++){
+            GridPosition cell = tree.getCellForChild(i, corner.getIndex());
+            if(i == corner.getIndex())
+                assertSame(corner, cell);
+            else
+                assertNotSame(corner, cell);
+        }
+    }
+
+    @Test
+    public void capacity_ignoresMinCellSizeUntilSized() throws Exception {
+        assertEquals(Integer.MAX_VALUE, new SplitTree(0, 0).getCapacity(-1, 100));
+        assertEquals(32, new SplitTree(WIDTH, HEIGHT).getCapacity(-1, 100));
+        assertEquals(16, new SplitTree(WIDTH, HEIGHT).getCapacity(4, 100));
+    }
+
+    @Test
+    public void shownImageCount_keepsCellForOverflowView() throws Exception {
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        assertEquals(4, tree.getShownImageCount(4, 0, 2, 0));
+        //one image too many takes a cell for the overflow view
+        assertEquals(3, tree.getShownImageCount(5, 0, 2, 0));
+        assertEquals(3, tree.getShownImageCount(3, 2, 2, 0));
+        assertEquals(2, tree.getShownImageCount(2, 2, 2, 0));
+        assertEquals(300, tree.getShownImageCount(300, 0, -1, 0));
+    }
+
+    @Test
+    public void addingPastCapacity_neverSplitsPastLimit() throws Exception {
+        SplitTree tree = new SplitTree(WIDTH, HEIGHT);
+        for(int imageCount = 1; imageCount <= 300; imageCount++){
+            int shown = tree.getShownImageCount(imageCount, 0, 4, 0);
+            tree.setCellCount(shown < imageCount ? shown + 1 : shown);
+            assertTrue(tree.size() <= 16);
+            assertTrue(tree.getColumnCount() <= 4);
+        }
+        assertEquals(16, tree.size());
+    }
+}
\ No newline at end of file